@@ -1,8 +1,11 @@
 package org.hibernate.infra.jreleaser.action;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -14,6 +17,8 @@ public class DocumentationUpload extends AbstractAction {
 	private static final Pattern VERSION_FAMILY = Pattern.compile( "^\\d++\\.\\d++" );
 
 	private List<String> command;
+	private Duration timeout;
+	private Duration killGracePeriod;
 
 	@Override
 	public void initAction(JReleaserContext context, Map<String, Object> properties) {
@@ -27,14 +32,40 @@ public class DocumentationUpload extends AbstractAction {
 		String sourceDirectory = interpolate( getProperty( "sourceDirectory", properties ), projectVersion, versionFamily );
 		String destinationDirectory = interpolate( getProperty( "destinationDirectory", properties ), projectVersion, versionFamily );
 
-		command = List.of(
-				"rsync",
-				"-rzh",
-				"--progress",
-				"--delete",
-				sourceDirectory,
-				"%s:%s".formatted( server, destinationDirectory )
-		);
+		timeout = getPositiveDuration( "timeout", "PT1H", properties );
+		killGracePeriod = getPositiveDuration( "killGracePeriod", "PT10S", properties );
+		Duration ioTimeout = getPositiveDuration( "ioTimeout", "PT5M", properties );
+		if ( ioTimeout.compareTo( Duration.ofSeconds( 1 ) ) < 0 ) {
+			// rsync only accepts whole seconds, and 0 would disable the timeout altogether
+			throw new IllegalArgumentException( "property ioTimeout must be at least 1 second: " + ioTimeout );
+		}
+		String bandwidthLimit = getProperty( "bandwidthLimit", null, properties );
+
+		command = rsyncCommand( sourceDirectory, "%s:%s".formatted( server, destinationDirectory ), ioTimeout, bandwidthLimit );
+	}
+
+	static List<String> rsyncCommand(String source, String destination, Duration ioTimeout, String bandwidthLimit) {
+		// no -h here: the progress output has to contain the exact byte counts for the transfer metrics
+		List<String> command = new ArrayList<>();
+		command.add( "rsync" );
+		command.add( "-rz" );
+		command.add( "--progress" );
+		command.add( "--delete" );
+		command.add( "--timeout=" + ioTimeout.toSeconds() );
+		if ( bandwidthLimit != null ) {
+			command.add( "--bwlimit=" + bandwidthLimit );
+		}
+		command.add( source );
+		command.add( destination );
+		return List.copyOf( command );
+	}
+
+	private Duration getPositiveDuration(String property, String defaultValue, Map<String, Object> properties) {
+		Duration value = Duration.parse( getProperty( property, defaultValue, properties ) );
+		if ( value.isNegative() || value.isZero() ) {
+			throw new IllegalArgumentException( "property " + property + " must be a positive duration: " + value );
+		}
+		return value;
 	}
 
 	private String interpolate(String value, String version, String family) {
@@ -48,21 +79,92 @@ public class DocumentationUpload extends AbstractAction {
 			return;
 		}
 
+		Process process = null;
 		try {
 			ProcessBuilder processBuilder = new ProcessBuilder( command );
-			processBuilder.inheritIO();
-			Process process = processBuilder.start();
-			int exitCode = process.waitFor();
+			processBuilder.redirectErrorStream( true );
+			processBuilder.redirectInput( ProcessBuilder.Redirect.INHERIT );
+			RsyncProgress progress = new RsyncProgress(
+					System.nanoTime(),
+					line -> context.getLogger().info( line ),
+					file -> context.getLogger().debug( "Transferred {} ({} bytes) in {}", file.name(), file.bytes(), file.elapsed() )
+			);
+			process = processBuilder.start();
+			Process rsync = process;
+			Thread reader = Thread.ofPlatform().name( "rsync-progress" ).daemon().start( () -> {
+				try {
+					progress.read( rsync.getInputStream() );
+				}
+				catch (IOException e) {
+					context.getLogger().warn( "Failed to read rsync output", e );
+				}
+			} );
+
+			if ( !awaitOrKill( process, timeout, killGracePeriod ) ) {
+				context.getLogger().error( "Rsync did not complete within {} and was terminated", timeout );
+				reader.join( killGracePeriod.toMillis() );
+				context.getLogger().error( "Rsync transfer aborted: {}", progress.metrics( System.nanoTime() ) );
+				return;
+			}
+			// let the reader drain whatever is left in the output:
+			reader.join( killGracePeriod.toMillis() );
+			RsyncProgress.TransferMetrics metrics = progress.metrics( System.nanoTime() );
+			int exitCode = process.exitValue();
 			if ( exitCode == 0 ) {
-				context.getLogger().info( "Rsync completed successfully" );
+				context.getLogger().info( "Rsync completed successfully: {}", metrics );
 			}
 			else {
-				context.getLogger().error( "Rsync failed with exit code: " + exitCode );
+				context.getLogger().error( "Rsync failed with exit code: " + exitCode + ". " + metrics );
 			}
 		}
-		catch (IOException | InterruptedException e) {
+		catch (IOException e) {
 			context.getLogger().error( "Failed to execute command: " + command, e );
 		}
+		catch (InterruptedException e) {
+			if ( process != null ) {
+				kill( process, killGracePeriod );
+			}
+			Thread.currentThread().interrupt();
+			context.getLogger().error( "Interrupted while executing command: " + command, e );
+		}
+	}
+
+	/**
+	 * @return {@code true} if the process completed within the timeout,
+	 * {@code false} if it did not and had to be {@link #kill(Process, Duration) killed}.
+	 */
+	static boolean awaitOrKill(Process process, Duration timeout, Duration killGracePeriod) throws InterruptedException {
+		if ( process.waitFor( timeout.toMillis(), TimeUnit.MILLISECONDS ) ) {
+			return true;
+		}
+		kill( process, killGracePeriod );
+		return false;
+	}
+
+	/**
+	 * Asks the process and all its descendants to terminate,
+	 * and forcibly kills whatever is still alive once the grace period is over.
+	 */
+	static void kill(Process process, Duration killGracePeriod) {
+		// rsync spawns ssh to talk to the server, so make sure it goes away too.
+		// Descendants are collected upfront, as they are no longer reachable through the process once it is gone:
+		List<ProcessHandle> descendants = process.descendants().toList();
+		descendants.forEach( ProcessHandle::destroy );
+		process.destroy();
+		long deadline = System.nanoTime() + killGracePeriod.toNanos();
+		try {
+			while ( ( process.isAlive() || descendants.stream().anyMatch( ProcessHandle::isAlive ) )
+					&& System.nanoTime() < deadline ) {
+				Thread.sleep( 50L );
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		descendants.stream().filter( ProcessHandle::isAlive ).forEach( ProcessHandle::destroyForcibly );
+		if ( process.isAlive() ) {
+			process.destroyForcibly();
+		}
 	}
 
 	@Override
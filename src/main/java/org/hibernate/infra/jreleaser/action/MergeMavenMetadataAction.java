@@ -11,7 +11,6 @@ import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -20,39 +19,29 @@ import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.time.Clock;
 import java.time.Duration;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
-import java.util.regex.Pattern;
-import javax.xml.stream.XMLEventFactory;
-import javax.xml.stream.XMLEventReader;
-import javax.xml.stream.XMLEventWriter;
-import javax.xml.stream.XMLInputFactory;
-import javax.xml.stream.XMLOutputFactory;
-import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.XMLEvent;
+
+import org.hibernate.infra.jreleaser.metadata.ArtifactCoordinates;
+import org.hibernate.infra.jreleaser.metadata.MetadataMerger;
+import org.hibernate.infra.jreleaser.metadata.MetadataMerger.Mode;
 
 import org.jreleaser.model.api.JReleaserContext;
 import org.jreleaser.model.api.hooks.ExecutionEvent;
-import org.jreleaser.version.SemanticVersion;
 
 public class MergeMavenMetadataAction extends AbstractAction {
 
-	enum Mode {
-		MERGE,
-		RECREATE;
-	}
-
-	private static final Pattern VERSION_PATTERN = Pattern.compile( "\\d++\\.\\d++\\.\\d++.*+" );
-	private static final DateTimeFormatter LAST_UPDATED_FORMAT = DateTimeFormatter.ofPattern( "yyyyMMddHHmmss" );
-
 	private Path stagingRepository;
 	private String projectVersion;
 	private String repositoryUrl;
 	private String repositoryServiceUrl;
 	private Duration retryInterval;
 	private Mode mode;
+	private int parallelism;
 
 	@Override
 	public void initAction(JReleaserContext context, Map<String, Object> properties) {
@@ -75,6 +64,10 @@ public class MergeMavenMetadataAction extends AbstractAction {
 		}
 
 		retryInterval = Duration.parse( getProperty( "retryInterval", "PT30.0S", properties ) );
+		parallelism = Integer.parseInt( getProperty( "parallelism", "1", properties ) );
+		if ( parallelism < 1 ) {
+			throw new IllegalArgumentException( "property parallelism must be positive: " + parallelism );
+		}
 
 		String stagingRepositoryString = getProperty( "stagingRepository", properties );
 		stagingRepository = Paths.get( stagingRepositoryString );
@@ -93,30 +86,13 @@ public class MergeMavenMetadataAction extends AbstractAction {
 
 	@Override
 	public void action(ExecutionEvent event, JReleaserContext context) {
-		Consumer<Path> mergeAction;
+		Map<ArtifactCoordinates, Path> metadataFiles = new HashMap<>();
 		Consumer<Path> removeAction;
 
 		if ( context.isDryrun() ) {
-			mergeAction = path -> {
-				try ( var sw = new StringWriter(); ) {
-					processXml( context, path, sw );
-					context.getLogger().info( "Would merge " + path + "with the following resulting XML:\n" + sw );
-				}
-				catch (IOException e) {
-					throw new RuntimeException( e );
-				}
-			};
 			removeAction = path -> context.getLogger().info( "Would remove " + path );
 		}
 		else {
-			mergeAction = path -> {
-				try ( FileWriter fw = new FileWriter( path.toAbsolutePath().toFile(), false ) ) {
-					processXml( context, path, fw );
-				}
-				catch (IOException e) {
-					throw new RuntimeException( e );
-				}
-			};
 			removeAction = path -> {
 				try {
 					Files.delete( path );
@@ -137,7 +113,7 @@ public class MergeMavenMetadataAction extends AbstractAction {
 							if ( parent != null && !parent.getFileName().toString().equals( projectVersion ) ) {
 								String currentFileName = file.getFileName().toString();
 								if ( "maven-metadata.xml".equals( currentFileName ) ) {
-									mergeAction.accept( file );
+									metadataFiles.put( coordinates( stagingRepository, parent ), file );
 								}
 								else if ( currentFileName.startsWith( "maven-metadata.xml" ) ) {
 									removeAction.accept( file );
@@ -155,34 +131,50 @@ public class MergeMavenMetadataAction extends AbstractAction {
 		catch (IOException e) {
 			throw new RuntimeException( e );
 		}
-	}
 
-	private void processXml(JReleaserContext context, Path path, Writer fw) throws MalformedURLException {
-		ArtifactCoordinates coordinates = ArtifactCoordinates.from( stagingRepository, path.getParent() );
-		// it probably would've been better to read the xml from the stream, but...
-		// let's prefetch the entier doc with retries before we pass it to the xml parser:
-		if ( Mode.MERGE.equals( mode ) ) {
-			// e.g. https://oss.sonatype.org/content/repositories/snapshots/org/hibernate/orm/hibernate-core/maven-metadata.xml
-			byte[] xml = downloadWithRetry( context, 5, URI.create( repositoryUrl + coordinates.path + "/maven-metadata.xml" ).toURL() );
-			mergeMetadataXml( xml, projectVersion, fw );
+		List<MetadataMerger.Input> inputs = new ArrayList<>( metadataFiles.size() );
+		for ( ArtifactCoordinates coordinates : metadataFiles.keySet() ) {
+			URL url = remoteUrl( mode, mode == Mode.MERGE ? repositoryUrl : repositoryServiceUrl, coordinates );
+			// it probably would've been better to read the xml from the stream, but...
+			// let's prefetch the entier doc with retries before we pass it to the xml parser:
+			inputs.add( new MetadataMerger.Input( coordinates, () -> new ByteArrayInputStream( downloadWithRetry( context, 5, url ) ), projectVersion ) );
+		}
+
+		MetadataMerger merger = new MetadataMerger( Clock.systemUTC(), parallelism );
+		if ( context.isDryrun() ) {
+			Map<ArtifactCoordinates, StringWriter> results = new ConcurrentHashMap<>();
+			merger.process( mode, inputs, coordinates -> results.computeIfAbsent( coordinates, c -> new StringWriter() ) );
+			// only log once everything got processed, so that a failure does not end up logging partial XMLs:
+			results.forEach( (coordinates, xml) -> context.getLogger()
+					.info( "Would merge " + metadataFiles.get( coordinates ) + " with the following resulting XML:\n" + xml ) );
 		}
 		else {
-			// e.g. https://oss.sonatype.org/service/local/repositories/snapshots/content/org/hibernate/orm/hibernate-core/
-			byte[] xml = downloadWithRetry( context, 5, URI.create( repositoryServiceUrl + coordinates.path + "/" ).toURL() );
-			recreateMetadataXml( xml, projectVersion, coordinates.groupId(), coordinates.artifactId(), fw );
+			merger.process( mode, inputs, coordinates -> new FileWriter( metadataFiles.get( coordinates ).toAbsolutePath().toFile(), false ) );
 		}
 	}
 
-	@Override
-	protected String eventName() {
-		return "checksum";
+	static ArtifactCoordinates coordinates(Path stagingRepository, Path artifactDirectory) {
+		Path relative = stagingRepository.relativize( artifactDirectory );
+		return new ArtifactCoordinates( relative.getParent().toString().replace( File.separatorChar, '.' ), artifactDirectory.getFileName().toString() );
 	}
 
-	private record ArtifactCoordinates(String groupId, String artifactId, String path) {
-		static ArtifactCoordinates from(Path staging, Path path) {
-			Path relative = staging.relativize( path );
-			return new ArtifactCoordinates( path.getFileName().toString(), relative.getParent().toString().replace( File.separatorChar, '.' ), relative.toString() );
+	static URL remoteUrl(Mode mode, String baseUrl, ArtifactCoordinates coordinates) {
+		try {
+			return switch ( mode ) {
+				// e.g. https://oss.sonatype.org/content/repositories/snapshots/org/hibernate/orm/hibernate-core/maven-metadata.xml
+				case MERGE -> URI.create( baseUrl + coordinates.path() + "/maven-metadata.xml" ).toURL();
+				// e.g. https://oss.sonatype.org/service/local/repositories/snapshots/content/org/hibernate/orm/hibernate-core/
+				case RECREATE -> URI.create( baseUrl + coordinates.path() + "/" ).toURL();
+			};
 		}
+		catch (MalformedURLException e) {
+			throw new RuntimeException( e );
+		}
+	}
+
+	@Override
+	protected String eventName() {
+		return "checksum";
 	}
 
 	public byte[] downloadWithRetry(JReleaserContext context, int retry, URL url) {
@@ -215,73 +207,7 @@ public class MergeMavenMetadataAction extends AbstractAction {
 	}
 
 	public static void recreateMetadataXml(InputStream in, String version, String groupId, String artifactId, Writer out) {
-		SemanticVersion latest = SemanticVersion.of( version );
-
-		XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
-		XMLOutputFactory outFactory = XMLOutputFactory.newInstance();
-		XMLEventFactory eventFactory = XMLEventFactory.newInstance();
-
-		try {
-			XMLEventReader reader = xmlInputFactory.createXMLEventReader( in );
-			XMLEventWriter writer = outFactory.createXMLEventWriter( out );
-
-			writer.add( eventFactory.createStartDocument() );
-			writer.add( eventFactory.createCharacters( "\n" ) );
-			writer.add( eventFactory.createStartElement( "", "", "metadata" ) );
-			writer.add( eventFactory.createCharacters( "\n  " ) );
-			writer.add( eventFactory.createStartElement( "", "", "groupId" ) );
-			writer.add( eventFactory.createCharacters( groupId ) );
-			writer.add( eventFactory.createEndElement( "", "", "groupId" ) );
-			writer.add( eventFactory.createCharacters( "\n  " ) );
-			writer.add( eventFactory.createStartElement( "", "", "artifactId" ) );
-			writer.add( eventFactory.createCharacters( artifactId ) );
-			writer.add( eventFactory.createEndElement( "", "", "artifactId" ) );
-			writer.add( eventFactory.createCharacters( "\n  " ) );
-			writer.add( eventFactory.createStartElement( "", "", "versioning" ) );
-			writer.add( eventFactory.createCharacters( "\n    " ) );
-			writer.add( eventFactory.createStartElement( "", "", "versions" ) );
-			while ( reader.hasNext() ) {
-				XMLEvent xmlEvent = reader.nextEvent();
-				if ( xmlEvent.isStartElement() && xmlEvent.asStartElement().getName().getLocalPart().equals( "text" ) ) {
-					XMLEvent text = reader.nextEvent();
-					if ( !text.isCharacters() ) {
-						throw new IllegalStateException( "Unexpected evet instead of characters: " + text );
-					}
-					String data = text.asCharacters().getData();
-					if ( VERSION_PATTERN.matcher( data ).matches() ) {
-						SemanticVersion curr = SemanticVersion.of( data );
-						if ( latest.compareTo( curr ) <= 0 ) {
-							latest = curr;
-						}
-						writer.add( eventFactory.createCharacters( "\n      " ) );
-						writer.add( eventFactory.createStartElement( "", "", "version" ) );
-						writer.add( eventFactory.createCharacters( data ) );
-						writer.add( eventFactory.createEndElement( "", "", "version" ) );
-						reader.nextEvent();// just get the value out of the stream (discard)
-					}
-				}
-			}
-			writer.add( eventFactory.createCharacters( "\n    " ) );
-			writer.add( eventFactory.createEndElement( "", "", "versions" ) );
-			writer.add( eventFactory.createCharacters( "\n    " ) );
-			writer.add( eventFactory.createStartElement( "", "", "latest" ) );
-			writer.add( eventFactory.createCharacters( latest.toString() ) );
-			writer.add( eventFactory.createEndElement( "", "", "latest" ) );
-			writer.add( eventFactory.createCharacters( "\n    " ) );
-			writer.add( eventFactory.createStartElement( "", "", "lastUpdated" ) );
-			writer.add( eventFactory.createCharacters( LAST_UPDATED_FORMAT.format( LocalDateTime.now( Clock.systemUTC() ) ) ) );
-			writer.add( eventFactory.createEndElement( "", "", "lastUpdated" ) );
-			writer.add( eventFactory.createCharacters( "\n  " ) );
-			writer.add( eventFactory.createEndElement( "", "", "versioning" ) );
-			writer.add( eventFactory.createCharacters( "\n" ) );
-			writer.add( eventFactory.createEndElement( "", "", "metadata" ) );
-			writer.add( eventFactory.createEndDocument() );
-			writer.flush();
-			writer.close();
-		}
-		catch (XMLStreamException e) {
-			throw new RuntimeException( e );
-		}
+		new MetadataMerger().recreate( in, version, new ArtifactCoordinates( groupId, artifactId ), out );
 	}
 
 	public static void mergeMetadataXml(byte[] in, String version, Writer out) {
@@ -289,68 +215,6 @@ public class MergeMavenMetadataAction extends AbstractAction {
 	}
 
 	public static void mergeMetadataXml(InputStream in, String version, Writer out) {
-		try {
-			XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
-			XMLOutputFactory outFactory = XMLOutputFactory.newInstance();
-			XMLEventFactory eventFactory = XMLEventFactory.newInstance();
-
-			XMLEventReader reader = xmlInputFactory.createXMLEventReader( in );
-			XMLEventWriter writer = outFactory.createXMLEventWriter( out );
-
-			boolean hasCurrentVersion = false;
-
-			while ( reader.hasNext() ) {
-				XMLEvent xmlEvent = reader.nextEvent();
-				if ( xmlEvent.isStartElement() && xmlEvent.asStartElement().getName().getLocalPart().equals( "lastUpdated" ) ) {
-					writer.add( xmlEvent );
-					reader.nextEvent();// just get the value out of the stream (discard)
-					writer.add( eventFactory.createCharacters( LAST_UPDATED_FORMAT.format( LocalDateTime.now( Clock.systemUTC() ) ) ) );
-					writer.add( reader.nextEvent() );
-					continue;
-				}
-				if ( xmlEvent.isStartElement() && xmlEvent.asStartElement().getName().getLocalPart().equals( "version" ) ) {
-					writer.add( xmlEvent );
-					XMLEvent ver = reader.nextEvent();
-					if ( !ver.isCharacters() ) {
-						throw new IllegalStateException( "Unexpected event when reading version value: " + ver );
-					}
-					hasCurrentVersion |= ver.asCharacters().getData().equals( version );
-					writer.add( ver );
-					writer.add( reader.nextEvent() );
-
-					continue;
-				}
-				if ( xmlEvent.isStartElement() && xmlEvent.asStartElement().getName().getLocalPart().equals( "latest" ) ) {
-					writer.add( xmlEvent );
-					XMLEvent ver = reader.nextEvent();
-					if ( !ver.isCharacters() ) {
-						throw new IllegalStateException( "Unexpected event when reading version value: " + ver );
-					}
-					writer.add( eventFactory.createCharacters( getLatest( version, ver.asCharacters().getData() ) ) );
-					writer.add( reader.nextEvent() );
-
-					continue;
-				}
-				if ( xmlEvent.isEndElement() && xmlEvent.asEndElement().getName().getLocalPart().equals( "versions" ) && !hasCurrentVersion ) {
-					writer.add( eventFactory.createStartElement( "", "", "version" ) );
-					writer.add( eventFactory.createCharacters( version ) );
-					writer.add( eventFactory.createEndElement( "", "", "version" ) );
-				}
-				writer.add( xmlEvent );
-			}
-			writer.flush();
-			writer.close();
-			reader.close();
-		}
-		catch (javax.xml.stream.XMLStreamException e) {
-			throw new RuntimeException( e );
-		}
-	}
-
-	private static String getLatest(String current, String latest) {
-		if ( SemanticVersion.of( current ).compareTo( SemanticVersion.of( latest ) ) < 0 ) {
-			return latest;
-		}
-		return current;
+		new MetadataMerger().merge( in, version, out );
 	}
 }
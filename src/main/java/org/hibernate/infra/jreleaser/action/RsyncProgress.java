@@ -0,0 +1,136 @@
+package org.hibernate.infra.jreleaser.action;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Collects the transfer metrics out of the {@code rsync --progress} output.
+ * <p>
+ * Rsync rewrites the progress line of the file being transferred with {@code \r},
+ * and only the last update for each file (the one with the {@code xfr#} counter) is taken into account.
+ * The size reported there is the size of the processed file, which, with compression and delta transfer,
+ * is not what actually goes over the network. The network figures come from the closing {@code sent ... received ...}
+ * summary line instead.
+ */
+class RsyncProgress {
+
+	// e.g. "      1,234,567 100%   12.34MB/s    0:00:01 (xfr#3, to-chk=10/20)"
+	private static final Pattern PROGRESS_LINE = Pattern.compile(
+			"^\\s*+([\\d,.]++)\\s++(\\d++)%\\s++\\S++\\s++(\\d++):(\\d{2}):(\\d{2})(?:\\s++\\((?:xfr|xfer)#(\\d++),.*\\))?\\s*+$" );
+	// e.g. "sent 1,235,109 bytes  received 67 bytes  823,450.67 bytes/sec"
+	private static final Pattern SUMMARY_LINE = Pattern.compile( "^sent ([\\d,.]++) bytes\\s++received ([\\d,.]++) bytes.*+$" );
+
+	private final long start;
+	private final Consumer<String> output;
+	private final Consumer<FileTransfer> transferred;
+
+	private String currentFile;
+	private long fileBytes;
+	private long files;
+	private long sentBytes = -1L;
+	private long receivedBytes = -1L;
+
+	RsyncProgress(long startNanos, Consumer<String> output, Consumer<FileTransfer> transferred) {
+		this.start = startNanos;
+		this.output = output;
+		this.transferred = transferred;
+	}
+
+	void read(InputStream in) throws IOException {
+		try ( Reader reader = new InputStreamReader( in, StandardCharsets.UTF_8 ) ) {
+			StringBuilder line = new StringBuilder();
+			int c;
+			while ( ( c = reader.read() ) != -1 ) {
+				if ( c == '\r' || c == '\n' ) {
+					if ( !line.isEmpty() ) {
+						accept( line.toString() );
+						line.setLength( 0 );
+					}
+				}
+				else {
+					line.append( (char) c );
+				}
+			}
+			if ( !line.isEmpty() ) {
+				accept( line.toString() );
+			}
+		}
+	}
+
+	synchronized void accept(String line) {
+		Matcher matcher = PROGRESS_LINE.matcher( line );
+		if ( !matcher.matches() ) {
+			Matcher summary = SUMMARY_LINE.matcher( line );
+			if ( summary.matches() ) {
+				sentBytes = parseCount( summary.group( 1 ) );
+				receivedBytes = parseCount( summary.group( 2 ) );
+			}
+			// anything else that is not a progress update is either a file name or a message from rsync itself:
+			currentFile = line.trim();
+			output.accept( line );
+			return;
+		}
+		if ( matcher.group( 6 ) == null ) {
+			// intermediate update of the file that is still being transferred
+			return;
+		}
+		long size = parseCount( matcher.group( 1 ) );
+		Duration elapsed = Duration.ofHours( Long.parseLong( matcher.group( 3 ) ) )
+				.plusMinutes( Long.parseLong( matcher.group( 4 ) ) )
+				.plusSeconds( Long.parseLong( matcher.group( 5 ) ) );
+		FileTransfer file = new FileTransfer( currentFile, size, elapsed );
+		fileBytes += size;
+		files++;
+		transferred.accept( file );
+	}
+
+	synchronized TransferMetrics metrics(long endNanos) {
+		return new TransferMetrics( fileBytes, files, sentBytes, receivedBytes, Duration.ofNanos( endNanos - start ) );
+	}
+
+	private static long parseCount(String value) {
+		return Long.parseLong( value.replaceAll( "[,.]", "" ) );
+	}
+
+	record FileTransfer(String name, long bytes, Duration elapsed) {
+	}
+
+	/**
+	 * @param fileBytes The total size of the processed files, as reported by the per-file progress.
+	 * @param sentBytes The bytes actually sent over the network, or {@code -1} if rsync did not report it (e.g. it was terminated).
+	 * @param receivedBytes The bytes actually received over the network, or {@code -1} if rsync did not report it.
+	 */
+	record TransferMetrics(long fileBytes, long files, long sentBytes, long receivedBytes, Duration duration) {
+
+		double sentBytesPerSecond() {
+			return sentBytes < 0 ? 0.0 : perSecond( sentBytes );
+		}
+
+		double filesPerSecond() {
+			return perSecond( files );
+		}
+
+		private double perSecond(long value) {
+			double seconds = duration.toNanos() / 1_000_000_000.0;
+			return seconds > 0 ? value / seconds : 0.0;
+		}
+
+		@Override
+		public String toString() {
+			// logs should look the same regardless of the locale of the machine running the release:
+			String network = sentBytes < 0
+					? "network transfer not reported"
+					: String.format( Locale.ROOT, "%d bytes sent, %d bytes received, %.2f bytes/s sent", sentBytes, receivedBytes, sentBytesPerSecond() );
+			return String.format( Locale.ROOT, "%d files (%d file bytes processed) in %s, %.2f files/s; %s",
+					files, fileBytes, duration, filesPerSecond(), network );
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package org.hibernate.infra.jreleaser.metadata;
+
+/**
+ * Identifies the artifact whose {@code maven-metadata.xml} is processed.
+ */
+public record ArtifactCoordinates(String groupId, String artifactId) {
+
+	/**
+	 * @return The path of the artifact directory relative to the repository root,
+	 * e.g. {@code org/hibernate/orm/hibernate-core}.
+	 */
+	public String path() {
+		return groupId.replace( '.', '/' ) + "/" + artifactId;
+	}
+
+	@Override
+	public String toString() {
+		return groupId + ":" + artifactId;
+	}
+}
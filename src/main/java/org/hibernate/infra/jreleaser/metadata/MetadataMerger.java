@@ -0,0 +1,314 @@
+package org.hibernate.infra.jreleaser.metadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.XMLEvent;
+
+import org.jreleaser.version.SemanticVersion;
+
+/**
+ * Merges the remote {@code maven-metadata.xml} with the locally built version, or recreates it from scratch
+ * out of the repository directory listing.
+ * <p>
+ * The {@code lastUpdated} timestamp is taken from the instant of the provided clock once per call,
+ * so all the documents produced by a single {@link #process(Mode, Collection, Sink) batch} share the same timestamp,
+ * and a fixed clock makes the output fully deterministic. As Maven expects, the timestamp is always written in UTC,
+ * regardless of the zone of the clock.
+ * <p>
+ * Versions are compared with {@code org.jreleaser.version.SemanticVersion}, so {@code org.jreleaser:jreleaser-model-api},
+ * {@code org.jreleaser:jreleaser-utils} and {@code org.jreleaser:jreleaser-resource-bundle} have to be on the classpath.
+ */
+public final class MetadataMerger {
+
+	public enum Mode {
+		/**
+		 * The input is the remote {@code maven-metadata.xml}; the local version is added to it if necessary.
+		 */
+		MERGE,
+		/**
+		 * The input is the repository service listing of the artifact directory; the metadata is created from scratch.
+		 */
+		RECREATE;
+	}
+
+	/**
+	 * Opens the remote document for an artifact. Invoked lazily, from the thread processing that artifact.
+	 */
+	@FunctionalInterface
+	public interface Source {
+		InputStream open() throws IOException;
+	}
+
+	/**
+	 * Opens the writer the resulting document of an artifact is written to. The writer is closed once the document is written.
+	 */
+	@FunctionalInterface
+	public interface Sink {
+		Writer open(ArtifactCoordinates coordinates) throws IOException;
+	}
+
+	public record Input(ArtifactCoordinates coordinates, Source remote, String version) {
+	}
+
+	private static final Pattern VERSION_PATTERN = Pattern.compile( "\\d++\\.\\d++\\.\\d++.*+" );
+	private static final DateTimeFormatter LAST_UPDATED_FORMAT = DateTimeFormatter.ofPattern( "yyyyMMddHHmmss" );
+
+	private final Clock clock;
+	private final int parallelism;
+
+	public MetadataMerger() {
+		this( Clock.systemUTC(), 1 );
+	}
+
+	public MetadataMerger(Clock clock, int parallelism) {
+		if ( parallelism < 1 ) {
+			throw new IllegalArgumentException( "parallelism must be positive: " + parallelism );
+		}
+		this.clock = clock;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Processes all the inputs, using up to {@code parallelism} threads, and waits for all of them to complete.
+	 * A failure of one input does not stop the processing of the others.
+	 *
+	 * @throws RuntimeException once all the inputs are processed, if any of them failed;
+	 * failures of the other inputs are added as suppressed.
+	 */
+	public void process(Mode mode, Collection<Input> inputs, Sink sink) {
+		String lastUpdated = lastUpdated();
+		RuntimeException failure = null;
+		if ( parallelism == 1 || inputs.size() < 2 ) {
+			for ( Input input : inputs ) {
+				try {
+					process( mode, input, sink, lastUpdated );
+				}
+				catch (RuntimeException e) {
+					failure = addFailure( failure, e );
+				}
+			}
+		}
+		else {
+			try ( ExecutorService executor = Executors.newFixedThreadPool( Math.min( parallelism, inputs.size() ) ) ) {
+				List<Future<?>> futures = new ArrayList<>( inputs.size() );
+				for ( Input input : inputs ) {
+					futures.add( executor.submit( () -> process( mode, input, sink, lastUpdated ) ) );
+				}
+				for ( Future<?> future : futures ) {
+					try {
+						future.get();
+					}
+					catch (ExecutionException e) {
+						Throwable cause = e.getCause();
+						if ( cause instanceof Error error ) {
+							// not a problem of a particular artifact, no point in carrying on with the rest:
+							executor.shutdownNow();
+							throw error;
+						}
+						failure = addFailure( failure, cause instanceof RuntimeException re ? re : new RuntimeException( cause ) );
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						executor.shutdownNow();
+						throw new RuntimeException( "Interrupted while processing Maven Metadata", e );
+					}
+				}
+			}
+		}
+		if ( failure != null ) {
+			throw failure;
+		}
+	}
+
+	private static RuntimeException addFailure(RuntimeException failure, RuntimeException cause) {
+		if ( failure == null ) {
+			return cause;
+		}
+		failure.addSuppressed( cause );
+		return failure;
+	}
+
+	private void process(Mode mode, Input input, Sink sink, String lastUpdated) {
+		try (
+				InputStream in = input.remote().open();
+				Writer out = sink.open( input.coordinates() )
+		) {
+			switch ( mode ) {
+				case MERGE -> merge( in, input.version(), lastUpdated, out );
+				case RECREATE -> recreate( in, input.version(), input.coordinates(), lastUpdated, out );
+				default -> throw new IllegalStateException();
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException( "Failed to process Maven Metadata of " + input.coordinates(), e );
+		}
+	}
+
+	public void merge(InputStream in, String version, Writer out) {
+		merge( in, version, lastUpdated(), out );
+	}
+
+	public void recreate(InputStream in, String version, ArtifactCoordinates coordinates, Writer out) {
+		recreate( in, version, coordinates, lastUpdated(), out );
+	}
+
+	private String lastUpdated() {
+		return LAST_UPDATED_FORMAT.format( LocalDateTime.ofInstant( clock.instant(), ZoneOffset.UTC ) );
+	}
+
+	private static void recreate(InputStream in, String version, ArtifactCoordinates coordinates, String lastUpdated, Writer out) {
+		SemanticVersion latest = SemanticVersion.of( version );
+
+		XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+		XMLOutputFactory outFactory = XMLOutputFactory.newInstance();
+		XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+
+		try {
+			XMLEventReader reader = xmlInputFactory.createXMLEventReader( in );
+			XMLEventWriter writer = outFactory.createXMLEventWriter( out );
+
+			writer.add( eventFactory.createStartDocument() );
+			writer.add( eventFactory.createCharacters( "\n" ) );
+			writer.add( eventFactory.createStartElement( "", "", "metadata" ) );
+			writer.add( eventFactory.createCharacters( "\n  " ) );
+			writer.add( eventFactory.createStartElement( "", "", "groupId" ) );
+			writer.add( eventFactory.createCharacters( coordinates.groupId() ) );
+			writer.add( eventFactory.createEndElement( "", "", "groupId" ) );
+			writer.add( eventFactory.createCharacters( "\n  " ) );
+			writer.add( eventFactory.createStartElement( "", "", "artifactId" ) );
+			writer.add( eventFactory.createCharacters( coordinates.artifactId() ) );
+			writer.add( eventFactory.createEndElement( "", "", "artifactId" ) );
+			writer.add( eventFactory.createCharacters( "\n  " ) );
+			writer.add( eventFactory.createStartElement( "", "", "versioning" ) );
+			writer.add( eventFactory.createCharacters( "\n    " ) );
+			writer.add( eventFactory.createStartElement( "", "", "versions" ) );
+			while ( reader.hasNext() ) {
+				XMLEvent xmlEvent = reader.nextEvent();
+				if ( xmlEvent.isStartElement() && xmlEvent.asStartElement().getName().getLocalPart().equals( "text" ) ) {
+					XMLEvent text = reader.nextEvent();
+					if ( !text.isCharacters() ) {
+						throw new IllegalStateException( "Unexpected evet instead of characters: " + text );
+					}
+					String data = text.asCharacters().getData();
+					if ( VERSION_PATTERN.matcher( data ).matches() ) {
+						SemanticVersion curr = SemanticVersion.of( data );
+						if ( latest.compareTo( curr ) <= 0 ) {
+							latest = curr;
+						}
+						writer.add( eventFactory.createCharacters( "\n      " ) );
+						writer.add( eventFactory.createStartElement( "", "", "version" ) );
+						writer.add( eventFactory.createCharacters( data ) );
+						writer.add( eventFactory.createEndElement( "", "", "version" ) );
+						reader.nextEvent();// just get the value out of the stream (discard)
+					}
+				}
+			}
+			writer.add( eventFactory.createCharacters( "\n    " ) );
+			writer.add( eventFactory.createEndElement( "", "", "versions" ) );
+			writer.add( eventFactory.createCharacters( "\n    " ) );
+			writer.add( eventFactory.createStartElement( "", "", "latest" ) );
+			writer.add( eventFactory.createCharacters( latest.toString() ) );
+			writer.add( eventFactory.createEndElement( "", "", "latest" ) );
+			writer.add( eventFactory.createCharacters( "\n    " ) );
+			writer.add( eventFactory.createStartElement( "", "", "lastUpdated" ) );
+			writer.add( eventFactory.createCharacters( lastUpdated ) );
+			writer.add( eventFactory.createEndElement( "", "", "lastUpdated" ) );
+			writer.add( eventFactory.createCharacters( "\n  " ) );
+			writer.add( eventFactory.createEndElement( "", "", "versioning" ) );
+			writer.add( eventFactory.createCharacters( "\n" ) );
+			writer.add( eventFactory.createEndElement( "", "", "metadata" ) );
+			writer.add( eventFactory.createEndDocument() );
+			writer.flush();
+			writer.close();
+		}
+		catch (XMLStreamException e) {
+			throw new RuntimeException( e );
+		}
+	}
+
+	private static void merge(InputStream in, String version, String lastUpdated, Writer out) {
+		try {
+			XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+			XMLOutputFactory outFactory = XMLOutputFactory.newInstance();
+			XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+
+			XMLEventReader reader = xmlInputFactory.createXMLEventReader( in );
+			XMLEventWriter writer = outFactory.createXMLEventWriter( out );
+
+			boolean hasCurrentVersion = false;
+
+			while ( reader.hasNext() ) {
+				XMLEvent xmlEvent = reader.nextEvent();
+				if ( xmlEvent.isStartElement() && xmlEvent.asStartElement().getName().getLocalPart().equals( "lastUpdated" ) ) {
+					writer.add( xmlEvent );
+					reader.nextEvent();// just get the value out of the stream (discard)
+					writer.add( eventFactory.createCharacters( lastUpdated ) );
+					writer.add( reader.nextEvent() );
+					continue;
+				}
+				if ( xmlEvent.isStartElement() && xmlEvent.asStartElement().getName().getLocalPart().equals( "version" ) ) {
+					writer.add( xmlEvent );
+					XMLEvent ver = reader.nextEvent();
+					if ( !ver.isCharacters() ) {
+						throw new IllegalStateException( "Unexpected event when reading version value: " + ver );
+					}
+					hasCurrentVersion |= ver.asCharacters().getData().equals( version );
+					writer.add( ver );
+					writer.add( reader.nextEvent() );
+
+					continue;
+				}
+				if ( xmlEvent.isStartElement() && xmlEvent.asStartElement().getName().getLocalPart().equals( "latest" ) ) {
+					writer.add( xmlEvent );
+					XMLEvent ver = reader.nextEvent();
+					if ( !ver.isCharacters() ) {
+						throw new IllegalStateException( "Unexpected event when reading version value: " + ver );
+					}
+					writer.add( eventFactory.createCharacters( getLatest( version, ver.asCharacters().getData() ) ) );
+					writer.add( reader.nextEvent() );
+
+					continue;
+				}
+				if ( xmlEvent.isEndElement() && xmlEvent.asEndElement().getName().getLocalPart().equals( "versions" ) && !hasCurrentVersion ) {
+					writer.add( eventFactory.createStartElement( "", "", "version" ) );
+					writer.add( eventFactory.createCharacters( version ) );
+					writer.add( eventFactory.createEndElement( "", "", "version" ) );
+				}
+				writer.add( xmlEvent );
+			}
+			writer.flush();
+			writer.close();
+			reader.close();
+		}
+		catch (XMLStreamException e) {
+			throw new RuntimeException( e );
+		}
+	}
+
+	private static String getLatest(String current, String latest) {
+		if ( SemanticVersion.of( current ).compareTo( SemanticVersion.of( latest ) ) < 0 ) {
+			return latest;
+		}
+		return current;
+	}
+}
@@ -0,0 +1,96 @@
+package org.hibernate.infra.jreleaser.action;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+class DocumentationUploadTest {
+
+	private static final Duration TIMEOUT = Duration.ofMillis( 500 );
+	private static final Duration KILL_GRACE_PERIOD = Duration.ofSeconds( 2 );
+	// some room for the JVM and the OS to actually start/reap the processes:
+	private static final Duration TOLERANCE = Duration.ofSeconds( 2 );
+
+	@Test
+	void command() {
+		assertEquals(
+				List.of( "rsync", "-rz", "--progress", "--delete", "--timeout=300", "--bwlimit=5m", "docs/", "server:/docs/7.0/" ),
+				DocumentationUpload.rsyncCommand( "docs/", "server:/docs/7.0/", Duration.ofMinutes( 5 ), "5m" )
+		);
+		assertEquals(
+				List.of( "rsync", "-rz", "--progress", "--delete", "--timeout=1", "docs/", "server:/docs/7.0/" ),
+				DocumentationUpload.rsyncCommand( "docs/", "server:/docs/7.0/", Duration.ofMillis( 1500 ), null )
+		);
+	}
+
+	@Test
+	@EnabledOnOs({ OS.LINUX, OS.MAC })
+	void completed() throws IOException, InterruptedException {
+		Process process = new ProcessBuilder( "sh", "-c", "exit 3" ).start();
+
+		assertTrue( DocumentationUpload.awaitOrKill( process, Duration.ofSeconds( 10 ), KILL_GRACE_PERIOD ) );
+		assertEquals( 3, process.exitValue() );
+	}
+
+	@Test
+	@EnabledOnOs({ OS.LINUX, OS.MAC })
+	void stuckProcessIsTerminated() throws IOException, InterruptedException {
+		// the shell stands in for rsync, and the sleeps in the background for its ssh child:
+		Process process = new ProcessBuilder( "sh", "-c", "sleep 60 & sleep 60 & wait" ).start();
+		List<ProcessHandle> descendants = awaitDescendants( process, 2 );
+
+		long start = System.nanoTime();
+		assertFalse( DocumentationUpload.awaitOrKill( process, TIMEOUT, KILL_GRACE_PERIOD ) );
+		Duration elapsed = Duration.ofNanos( System.nanoTime() - start );
+
+		assertStopped( process, descendants );
+		assertTrue( elapsed.compareTo( TIMEOUT.plus( KILL_GRACE_PERIOD ).plus( TOLERANCE ) ) < 0, "took " + elapsed );
+	}
+
+	@Test
+	@EnabledOnOs({ OS.LINUX, OS.MAC })
+	void processIgnoringTerminationIsKilled() throws IOException, InterruptedException {
+		// ignored signals are inherited, so the child ignores SIGTERM as well:
+		Process process = new ProcessBuilder( "sh", "-c", "trap '' TERM; sleep 60 & wait" ).start();
+		List<ProcessHandle> descendants = awaitDescendants( process, 1 );
+
+		long start = System.nanoTime();
+		assertFalse( DocumentationUpload.awaitOrKill( process, TIMEOUT, KILL_GRACE_PERIOD ) );
+		Duration elapsed = Duration.ofNanos( System.nanoTime() - start );
+
+		assertStopped( process, descendants );
+		assertTrue( elapsed.compareTo( TIMEOUT.plus( KILL_GRACE_PERIOD ) ) >= 0, "took " + elapsed );
+		assertTrue( elapsed.compareTo( TIMEOUT.plus( KILL_GRACE_PERIOD ).plus( TOLERANCE ) ) < 0, "took " + elapsed );
+	}
+
+	private static List<ProcessHandle> awaitDescendants(Process process, int count) throws InterruptedException {
+		long deadline = System.nanoTime() + TOLERANCE.toNanos();
+		List<ProcessHandle> descendants = process.descendants().toList();
+		while ( descendants.size() < count && System.nanoTime() < deadline ) {
+			Thread.sleep( 10L );
+			descendants = process.descendants().toList();
+		}
+		assertEquals( count, descendants.size() );
+		return descendants;
+	}
+
+	private static void assertStopped(Process process, List<ProcessHandle> descendants) throws InterruptedException {
+		assertTrue( process.waitFor( TOLERANCE.toMillis(), TimeUnit.MILLISECONDS ) );
+		long deadline = System.nanoTime() + TOLERANCE.toNanos();
+		while ( descendants.stream().anyMatch( ProcessHandle::isAlive ) && System.nanoTime() < deadline ) {
+			Thread.sleep( 10L );
+		}
+		for ( ProcessHandle descendant : descendants ) {
+			assertFalse( descendant.isAlive(), "still running: " + descendant.pid() );
+		}
+	}
+}
@@ -5,8 +5,12 @@ import static org.junit.jupiter.api.Assertions.fail;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.regex.Pattern;
 
+import org.hibernate.infra.jreleaser.metadata.ArtifactCoordinates;
+import org.hibernate.infra.jreleaser.metadata.MetadataMerger.Mode;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -82,6 +86,22 @@ class MergeMavenMetadataActionTest {
 		}
 	}
 
+	@Test
+	void coordinatesAndUrl() {
+		Path staging = Path.of( "target", "staging-deploy", "maven" );
+		ArtifactCoordinates coordinates = MergeMavenMetadataAction.coordinates( staging, staging.resolve( Path.of( "org", "hibernate", "orm", "hibernate-core" ) ) );
+
+		Assertions.assertEquals( new ArtifactCoordinates( "org.hibernate.orm", "hibernate-core" ), coordinates );
+		Assertions.assertEquals(
+				"https://oss.sonatype.org/content/repositories/snapshots/org/hibernate/orm/hibernate-core/maven-metadata.xml",
+				MergeMavenMetadataAction.remoteUrl( Mode.MERGE, "https://oss.sonatype.org/content/repositories/snapshots/", coordinates ).toString()
+		);
+		Assertions.assertEquals(
+				"https://oss.sonatype.org/service/local/repositories/snapshots/content/org/hibernate/orm/hibernate-core/",
+				MergeMavenMetadataAction.remoteUrl( Mode.RECREATE, "https://oss.sonatype.org/service/local/repositories/snapshots/content/", coordinates ).toString()
+		);
+	}
+
 	private static final String MERGE_XML = """
 			<?xml version="1.0" encoding="UTF-8"?>
 			<metadata>
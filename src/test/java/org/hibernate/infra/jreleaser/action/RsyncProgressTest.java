@@ -0,0 +1,79 @@
+package org.hibernate.infra.jreleaser.action;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+
+class RsyncProgressTest {
+
+	@Test
+	void progress() throws IOException {
+		List<String> output = new ArrayList<>();
+		List<RsyncProgress.FileTransfer> files = new ArrayList<>();
+		RsyncProgress progress = new RsyncProgress( 0L, output::add, files::add );
+
+		progress.read( new ByteArrayInputStream( RSYNC_OUTPUT.getBytes( StandardCharsets.UTF_8 ) ) );
+
+		assertEquals( List.of( "sending incremental file list", "index.html", "css/style.css", "sent 1,235,109 bytes  received 67 bytes  823,450.67 bytes/sec" ), output );
+		assertEquals(
+				List.of(
+						new RsyncProgress.FileTransfer( "index.html", 1_234_567L, Duration.ofSeconds( 1 ) ),
+						new RsyncProgress.FileTransfer( "css/style.css", 512L, Duration.ZERO )
+				),
+				files
+		);
+
+		RsyncProgress.TransferMetrics metrics = progress.metrics( Duration.ofSeconds( 2 ).toNanos() );
+		assertEquals( 1_235_079L, metrics.fileBytes() );
+		assertEquals( 2L, metrics.files() );
+		assertEquals( 1_235_109L, metrics.sentBytes() );
+		assertEquals( 67L, metrics.receivedBytes() );
+		assertEquals( Duration.ofSeconds( 2 ), metrics.duration() );
+		assertEquals( 617_554.5, metrics.sentBytesPerSecond() );
+		assertEquals( 1.0, metrics.filesPerSecond() );
+
+		Locale locale = Locale.getDefault();
+		try {
+			// the decimal separator must not depend on the locale of the machine running the release:
+			Locale.setDefault( Locale.GERMANY );
+			assertEquals(
+					"2 files (1235079 file bytes processed) in PT2S, 1.00 files/s; 1235109 bytes sent, 67 bytes received, 617554.50 bytes/s sent",
+					metrics.toString()
+			);
+		}
+		finally {
+			Locale.setDefault( locale );
+		}
+	}
+
+	@Test
+	void aborted() throws IOException {
+		RsyncProgress progress = new RsyncProgress( 0L, line -> {}, file -> {} );
+
+		progress.read( new ByteArrayInputStream( RSYNC_OUTPUT.substring( 0, RSYNC_OUTPUT.indexOf( "css/" ) ).getBytes( StandardCharsets.UTF_8 ) ) );
+
+		RsyncProgress.TransferMetrics metrics = progress.metrics( Duration.ofSeconds( 1 ).toNanos() );
+		assertEquals( 1_234_567L, metrics.fileBytes() );
+		assertEquals( 1L, metrics.files() );
+		assertEquals( -1L, metrics.sentBytes() );
+		assertEquals( -1L, metrics.receivedBytes() );
+		assertEquals( 0.0, metrics.sentBytesPerSecond() );
+	}
+
+	private static final String RSYNC_OUTPUT = "sending incremental file list\n"
+			+ "index.html\n"
+			+ "         32,768   2%    0.00kB/s    0:00:00\r"
+			+ "        655,360  53%  640.00kB/s    0:00:00\r"
+			+ "      1,234,567 100%    1.10MB/s    0:00:01 (xfr#1, to-chk=1/3)\n"
+			+ "css/style.css\n"
+			+ "            512 100%    2.36kB/s    0:00:00 (xfr#2, to-chk=0/3)\n"
+			+ "sent 1,235,109 bytes  received 67 bytes  823,450.67 bytes/sec\n";
+}
@@ -0,0 +1,199 @@
+package org.hibernate.infra.jreleaser.metadata;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+class MetadataMergerTest {
+
+	private static final Clock CLOCK = Clock.fixed( Instant.parse( "2025-05-01T10:15:30Z" ), ZoneOffset.UTC );
+
+	@Test
+	void batch() {
+		List<MetadataMerger.Input> inputs = new ArrayList<>();
+		for ( int i = 0; i < 20; i++ ) {
+			ArtifactCoordinates coordinates = new ArtifactCoordinates( "org.hibernate.orm", "artifact-" + i );
+			inputs.add( new MetadataMerger.Input( coordinates, () -> new ByteArrayInputStream( metadata( coordinates ) ), "9.0.0-SNAPSHOT" ) );
+		}
+		Map<ArtifactCoordinates, StringWriter> results = new ConcurrentHashMap<>();
+
+		new MetadataMerger( CLOCK, 4 ).process( MetadataMerger.Mode.MERGE, inputs, coordinates -> results.computeIfAbsent( coordinates, c -> new StringWriter() ) );
+
+		assertEquals( inputs.size(), results.size() );
+		for ( MetadataMerger.Input input : inputs ) {
+			assertEquals(
+					"""
+					<?xml version="1.0" encoding="UTF-8"?><metadata>
+					  <groupId>org.hibernate.orm</groupId>
+					  <artifactId>%s</artifactId>
+					  <versioning>
+					    <latest>9.0.0-SNAPSHOT</latest>
+					    <versions>
+					      <version>7.0.7-SNAPSHOT</version>
+					    <version>9.0.0-SNAPSHOT</version></versions>
+					    <lastUpdated>20250501101530</lastUpdated>
+					  </versioning>
+					</metadata>""".formatted( input.coordinates().artifactId() ),
+					results.get( input.coordinates() ).toString()
+			);
+		}
+	}
+
+	@Test
+	void batchFailure() {
+		ArtifactCoordinates ok = new ArtifactCoordinates( "org.hibernate.orm", "hibernate-core" );
+		ArtifactCoordinates missing = new ArtifactCoordinates( "org.hibernate.orm", "hibernate-missing" );
+		List<MetadataMerger.Input> inputs = List.of(
+				new MetadataMerger.Input( ok, () -> new ByteArrayInputStream( metadata( ok ) ), "9.0.0-SNAPSHOT" ),
+				new MetadataMerger.Input( missing, () -> {
+					throw new IOException( "not found" );
+				}, "9.0.0-SNAPSHOT" )
+		);
+		Map<ArtifactCoordinates, StringWriter> results = new ConcurrentHashMap<>();
+
+		RuntimeException exception = assertThrows(
+				RuntimeException.class,
+				() -> new MetadataMerger( CLOCK, 2 ).process( MetadataMerger.Mode.MERGE, inputs, coordinates -> results.computeIfAbsent( coordinates, c -> new StringWriter() ) )
+		);
+		assertEquals( "Failed to process Maven Metadata of org.hibernate.orm:hibernate-missing", exception.getMessage() );
+		assertEquals( List.of( ok ), List.copyOf( results.keySet() ) );
+	}
+
+	@Test
+	void sequentialFailure() {
+		ArtifactCoordinates missing = new ArtifactCoordinates( "org.hibernate.orm", "hibernate-missing" );
+		ArtifactCoordinates ok = new ArtifactCoordinates( "org.hibernate.orm", "hibernate-core" );
+		ArtifactCoordinates broken = new ArtifactCoordinates( "org.hibernate.orm", "hibernate-broken" );
+		List<MetadataMerger.Input> inputs = List.of(
+				new MetadataMerger.Input( missing, () -> {
+					throw new IOException( "not found" );
+				}, "9.0.0-SNAPSHOT" ),
+				new MetadataMerger.Input( ok, () -> new ByteArrayInputStream( metadata( ok ) ), "9.0.0-SNAPSHOT" ),
+				new MetadataMerger.Input( broken, () -> {
+					throw new IOException( "server error" );
+				}, "9.0.0-SNAPSHOT" )
+		);
+		Map<ArtifactCoordinates, StringWriter> results = new ConcurrentHashMap<>();
+
+		RuntimeException exception = assertThrows(
+				RuntimeException.class,
+				() -> new MetadataMerger( CLOCK, 1 ).process( MetadataMerger.Mode.MERGE, inputs, coordinates -> results.computeIfAbsent( coordinates, c -> new StringWriter() ) )
+		);
+		// the first failure does not prevent the remaining inputs from being processed:
+		assertEquals( "Failed to process Maven Metadata of org.hibernate.orm:hibernate-missing", exception.getMessage() );
+		assertEquals( 1, exception.getSuppressed().length );
+		assertEquals( "Failed to process Maven Metadata of org.hibernate.orm:hibernate-broken", exception.getSuppressed()[0].getMessage() );
+		assertEquals( List.of( ok ), List.copyOf( results.keySet() ) );
+	}
+
+	@Test
+	void batchRecreate() {
+		ArtifactCoordinates coordinates = new ArtifactCoordinates( "org.hibernate.orm", "hibernate-core" );
+		List<MetadataMerger.Input> inputs = List.of(
+				new MetadataMerger.Input( coordinates, () -> new ByteArrayInputStream( LISTING.getBytes( StandardCharsets.UTF_8 ) ), "9.0.0-SNAPSHOT" )
+		);
+		Map<ArtifactCoordinates, StringWriter> results = new ConcurrentHashMap<>();
+
+		new MetadataMerger( CLOCK, 2 ).process( MetadataMerger.Mode.RECREATE, inputs, c -> results.computeIfAbsent( c, k -> new StringWriter() ) );
+
+		assertEquals(
+				"""
+				<?xml version="1.0" encoding="UTF-8"?>
+				<metadata>
+				  <groupId>org.hibernate.orm</groupId>
+				  <artifactId>hibernate-core</artifactId>
+				  <versioning>
+				    <versions>
+				      <version>6.4.0-SNAPSHOT</version>
+				      <version>10.0.0-SNAPSHOT</version>
+				    </versions>
+				    <latest>10.0.0-SNAPSHOT</latest>
+				    <lastUpdated>20250501101530</lastUpdated>
+				  </versioning>
+				</metadata>""",
+				results.get( coordinates ).toString()
+		);
+	}
+
+	@Test
+	void lastUpdatedInUtc() {
+		ArtifactCoordinates coordinates = new ArtifactCoordinates( "org.hibernate.orm", "hibernate-core" );
+		Clock newYork = Clock.fixed( CLOCK.instant(), ZoneId.of( "America/New_York" ) );
+		StringWriter out = new StringWriter();
+
+		new MetadataMerger( newYork, 1 ).process(
+				MetadataMerger.Mode.MERGE,
+				List.of( new MetadataMerger.Input( coordinates, () -> new ByteArrayInputStream( metadata( coordinates ) ), "9.0.0-SNAPSHOT" ) ),
+				c -> out
+		);
+
+		assertTrue( out.toString().contains( "<lastUpdated>20250501101530</lastUpdated>" ), out::toString );
+	}
+
+	@Test
+	void batchError() {
+		ArtifactCoordinates ok = new ArtifactCoordinates( "org.hibernate.orm", "hibernate-core" );
+		ArtifactCoordinates broken = new ArtifactCoordinates( "org.hibernate.orm", "hibernate-broken" );
+		List<MetadataMerger.Input> inputs = List.of(
+				new MetadataMerger.Input( broken, () -> {
+					throw new NoClassDefFoundError( "org/jreleaser/util/StringUtils" );
+				}, "9.0.0-SNAPSHOT" ),
+				new MetadataMerger.Input( ok, () -> new ByteArrayInputStream( metadata( ok ) ), "9.0.0-SNAPSHOT" )
+		);
+
+		// errors are not wrapped and treated as a failure of a single artifact:
+		assertThrows(
+				NoClassDefFoundError.class,
+				() -> new MetadataMerger( CLOCK, 2 ).process( MetadataMerger.Mode.MERGE, inputs, coordinates -> new StringWriter() )
+		);
+	}
+
+	private static final String LISTING = """
+			<?xml version="1.0" encoding="UTF-8"?>
+			<content>
+			  <data>
+			    <content-item>
+			      <text>6.4.0-SNAPSHOT</text>
+			    </content-item>
+			    <content-item>
+			      <text>maven-metadata.xml.sha512</text>
+			    </content-item>
+			    <content-item>
+			      <text>10.0.0-SNAPSHOT</text>
+			    </content-item>
+			  </data>
+			</content>
+			""";
+
+	private static byte[] metadata(ArtifactCoordinates coordinates) {
+		return """
+				<?xml version="1.0" encoding="UTF-8"?>
+				<metadata>
+				  <groupId>%s</groupId>
+				  <artifactId>%s</artifactId>
+				  <versioning>
+				    <latest>7.0.7-SNAPSHOT</latest>
+				    <versions>
+				      <version>7.0.7-SNAPSHOT</version>
+				    </versions>
+				    <lastUpdated>20250429074943</lastUpdated>
+				  </versioning>
+				</metadata>
+				""".formatted( coordinates.groupId(), coordinates.artifactId() ).getBytes( StandardCharsets.UTF_8 );
+	}
+}